@@ -0,0 +1,141 @@
+package tech.artcoded.csvtottl.benchmark;
+
+import lombok.Value;
+import tech.artcoded.csvtottl.utils.CsvDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates synthetic data with the columns and value distributions of the KBO open data csvs
+ * (code, enterprise, denomination, contact, address), deterministic for a given seed.
+ */
+public interface KboDataGenerator {
+    String[][] CODES = {
+            {"Status", "AC", "Actif", "Actief"},
+            {"JuridicalSituation", "000", "Situation normale", "Normale toestand"},
+            {"JuridicalSituation", "012", "Ouverture de faillite", "Opening faillissement"},
+            {"JuridicalSituation", "100", "Dissolution de plein droit", "Ontbinding van rechtswege"},
+            {"TypeOfEnterprise", "1", "Personne physique", "Natuurlijk persoon"},
+            {"TypeOfEnterprise", "2", "Personne morale", "Rechtspersoon"},
+            {"JuridicalForm", "014", "Société anonyme", "Naamloze vennootschap"},
+            {"JuridicalForm", "015", "Société privée à responsabilité limitée", "Besloten vennootschap met beperkte aansprakelijkheid"},
+            {"JuridicalForm", "017", "Association sans but lucratif", "Vereniging zonder winstoogmerk"},
+            {"TypeOfAddress", "REGO", "Siège", "Zetel"},
+            {"TypeOfAddress", "BAET", "Unité d établissement", "Vestigingseenheid"}
+    };
+    String[][] MUNICIPALITIES = {
+            {"1000", "Bruxelles", "Brussel"},
+            {"1050", "Ixelles", "Elsene"},
+            {"1060", "Saint-Gilles", "Sint-Gillis"},
+            {"1200", "Woluwe-Saint-Lambert", "Sint-Lambrechts-Woluwe"},
+            {"2000", "Anvers", "Antwerpen"},
+            {"3000", "Louvain", "Leuven"},
+            {"4000", "Liège", "Luik"},
+            {"5000", "Namur", "Namen"},
+            {"6000", "Charleroi", "Charleroi"},
+            {"7000", "Mons", "Bergen"},
+            {"8000", "Bruges", "Brugge"},
+            {"9000", "Gand", "Gent"}
+    };
+    String[][] STREETS = {
+            {"Rue de la Loi", "Wetstraat"},
+            {"Avenue Louise", "Louizalaan"},
+            {"Rue Neuve", "Nieuwstraat"},
+            {"Place du Marché", "Marktplein"},
+            {"Chaussée de Gand", "Gentsesteenweg"},
+            {"Rue de la Station", "Stationsstraat"},
+            {"Rue de l Église", "Kerkstraat"},
+            {"Rue du Moulin", "Molenstraat"}
+    };
+    String[] NAME_WORDS = {"ALPHA", "BATI", "CONSULT", "SERVICES", "TRANSPORT", "IMMO", "BOULANGERIE", "GARAGE",
+            "INVEST", "DESIGN", "MEDICAL", "FOOD", "TECH", "EUROPE", "BELGIUM", "GROUP"};
+    String[] JURIDICAL_SITUATIONS = {"000", "000", "000", "000", "000", "000", "000", "000", "012", "100"};
+    String[] JURIDICAL_FORMS = {"014", "015", "015", "017"};
+
+    @Value
+    class KboData {
+        List<Map<String, String>> codes;
+        CsvDto enterprises;
+        CsvDto contacts;
+        CsvDto denominations;
+        CsvDto addresses;
+    }
+
+    static KboData generate(int size, long seed) {
+        Random random = new Random(seed);
+
+        List<Map<String, String>> codes = new ArrayList<>();
+        for (String[] code : CODES) {
+            codes.add(Map.of("Category", code[0], "Code", code[1], "Language", "FR", "Description", code[2]));
+            codes.add(Map.of("Category", code[0], "Code", code[1], "Language", "NL", "Description", code[3]));
+        }
+
+        List<Map<String, String>> enterprises = new ArrayList<>(size);
+        List<Map<String, String>> contacts = new ArrayList<>();
+        List<Map<String, String>> denominations = new ArrayList<>();
+        List<Map<String, String>> addresses = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            String digits = "%010d".formatted(200_000_000L + i);
+            String number = "%s.%s.%s".formatted(digits.substring(0, 4), digits.substring(4, 7), digits.substring(7));
+
+            Map<String, String> enterprise = new HashMap<>();
+            enterprise.put("EnterpriseNumber", number);
+            enterprise.put("Status", "AC");
+            enterprise.put("JuridicalSituation", pick(random, JURIDICAL_SITUATIONS));
+            enterprise.put("TypeOfEnterprise", random.nextInt(4) == 0 ? "1" : "2");
+            enterprise.put("JuridicalForm", pick(random, JURIDICAL_FORMS));
+            enterprise.put("StartDate", "%02d-%02d-%d".formatted(1 + random.nextInt(28), 1 + random.nextInt(12), 1950 + random.nextInt(70)));
+            enterprises.add(enterprise);
+
+            // roughly 1% of the names match the regex used in query.sparql
+            String name = random.nextInt(100) == 0
+                    ? "DELHAIZE %s".formatted(pick(random, NAME_WORDS))
+                    : "%s %s".formatted(pick(random, NAME_WORDS), pick(random, NAME_WORDS));
+            denominations.add(denomination(number, random.nextInt(3) == 0 ? "2" : "1", name));
+            if (random.nextInt(4) == 0) {
+                denominations.add(denomination(number, "2", name + " BV"));
+            }
+
+            String domain = name.toLowerCase().replaceAll("[^a-z]", "") + i;
+            if (random.nextInt(10) < 4) contacts.add(contact(number, "EMAIL", "info@%s.be".formatted(domain)));
+            if (random.nextInt(10) < 3) contacts.add(contact(number, "WEB", "www.%s.be".formatted(domain)));
+            if (random.nextInt(10) < 5) contacts.add(contact(number, "TEL", "0%d".formatted(20_000_000 + random.nextInt(70_000_000))));
+
+            String[] municipality = pick(random, MUNICIPALITIES);
+            String[] street = pick(random, STREETS);
+            Map<String, String> address = new HashMap<>();
+            address.put("EntityNumber", number);
+            address.put("TypeOfAddress", "REGO");
+            address.put("Zipcode", municipality[0]);
+            address.put("MunicipalityFR", municipality[1]);
+            address.put("MunicipalityNL", municipality[2]);
+            address.put("StreetFR", street[0]);
+            address.put("StreetNL", street[1]);
+            address.put("HouseNumber", Integer.toString(1 + random.nextInt(200)));
+            addresses.add(address);
+        }
+
+        return new KboData(codes,
+                new CsvDto(new String[]{"EnterpriseNumber", "Status", "JuridicalSituation", "TypeOfEnterprise", "JuridicalForm", "StartDate"}, enterprises),
+                new CsvDto(new String[]{"EntityNumber", "EntityContact", "ContactType", "Value"}, contacts),
+                new CsvDto(new String[]{"EntityNumber", "Language", "TypeOfDenomination", "Denomination"}, denominations),
+                new CsvDto(new String[]{"EntityNumber", "TypeOfAddress", "Zipcode", "MunicipalityFR", "MunicipalityNL", "StreetFR", "StreetNL", "HouseNumber"}, addresses));
+    }
+
+    private static Map<String, String> denomination(String number, String language, String name) {
+        return Map.of("EntityNumber", number, "Language", language, "TypeOfDenomination", "001", "Denomination", name);
+    }
+
+    private static Map<String, String> contact(String number, String type, String value) {
+        return Map.of("EntityNumber", number, "EntityContact", "ENT", "ContactType", type, "Value", value);
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,139 @@
+package tech.artcoded.csvtottl.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.ResultSetFormatter;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.system.Txn;
+import org.apache.jena.vocabulary.ORG;
+import org.apache.jena.vocabulary.RDF;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import tech.artcoded.csvtottl.transformer.CsvToSubset;
+import tech.artcoded.csvtottl.transformer.TurtleFileSink;
+import tech.artcoded.csvtottl.utils.LatencyStats;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Generates KBO shaped data with the converter at several scales, loads it in an in-memory dataset
+ * and reports the latency of the benchmark queries. Run with the "benchmark" profile.
+ */
+@Service
+@Profile("benchmark")
+@Slf4j
+public class QueryBenchmark implements CommandLineRunner {
+    private final CsvToSubset csvToSubset;
+    @Value("${benchmark.scales:1000,10000,50000}")
+    private int[] scales;
+    @Value("${benchmark.chunkSize:4000}")
+    private int chunkSize;
+    @Value("${benchmark.warmup:2}")
+    private int warmup;
+    @Value("${benchmark.iterations:10}")
+    private int iterations;
+    @Value("${benchmark.seed:42}")
+    private long seed;
+    @Value("${benchmark.queries:classpath:benchmark/*.rq}")
+    private String queries;
+
+    public QueryBenchmark(CsvToSubset csvToSubset) {
+        this.csvToSubset = csvToSubset;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Resource[] queryResources = new PathMatchingResourcePatternResolver().getResources(queries);
+        Arrays.sort(queryResources, Comparator.comparing(Resource::getFilename));
+        if (queryResources.length == 0) {
+            throw new RuntimeException("no query found for %s".formatted(queries));
+        }
+
+        for (int scale : scales) {
+            File batchDir = Files.createTempDirectory("bce_benchmark_%s_".formatted(scale)).toFile();
+            Dataset dataset = null;
+            try {
+                log.info("scale {}: generate data...", scale);
+                KboDataGenerator.KboData data = KboDataGenerator.generate(scale, seed);
+                csvToSubset.transform(chunkSize, batchDir, new TurtleFileSink(batchDir), data.getCodes(), data.getEnterprises(), data.getContacts(),
+                        data.getDenominations(), data.getAddresses());
+
+                dataset = load(batchDir);
+                checkLoaded(scale, dataset);
+                for (Resource queryResource : queryResources) {
+                    String queryString = new String(queryResource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                    benchmark(scale, queryResource.getFilename(), QueryFactory.create(queryString), dataset);
+                }
+            } finally {
+                if (dataset != null) {
+                    dataset.close();
+                }
+                FileUtils.deleteDirectory(batchDir);
+            }
+        }
+        System.exit(0);
+    }
+
+    private Dataset load(File batchDir) {
+        long start = System.nanoTime();
+        Dataset dataset = DatasetFactory.createTxnMem();
+        File[] files = batchDir.listFiles((dir, name) -> name.endsWith(".ttl"));
+        Txn.executeWrite(dataset, () -> Arrays.stream(files).forEach(file -> RDFDataMgr.read(dataset, file.getAbsolutePath())));
+        long triples = Txn.calculateRead(dataset, () -> dataset.getDefaultModel().size());
+        log.info("loaded {} triples from {} files in {} ms", triples, files.length, (System.nanoTime() - start) / 1_000_000);
+        return dataset;
+    }
+
+    // the converter logs and skips a failing batch, a scale measured on partial data is meaningless
+    private static void checkLoaded(int scale, Dataset dataset) {
+        long triples = Txn.calculateRead(dataset, () -> dataset.getDefaultModel().size());
+        long organizations = Txn.calculateRead(dataset, () -> dataset.getDefaultModel()
+                .listSubjectsWithProperty(RDF.type, ORG.Organization).toList().size());
+        if (triples == 0 || organizations != scale) {
+            throw new RuntimeException("scale %s: loaded %s triples and %s organizations, expected %s organizations"
+                    .formatted(scale, triples, organizations, scale));
+        }
+    }
+
+    private void benchmark(int scale, String name, Query query, Dataset dataset) {
+        List<Long> latencies = new ArrayList<>(iterations);
+        long rows = 0;
+        for (int i = 0; i < warmup + iterations; i++) {
+            long start = System.nanoTime();
+            rows = Txn.calculateRead(dataset, () -> execute(query, dataset));
+            if (i >= warmup) {
+                latencies.add(System.nanoTime() - start);
+            }
+        }
+        List<Long> sorted = LatencyStats.sorted(latencies);
+        log.info("scale {} | {} | rows {} | p50 {} ms | p99 {} ms | max {} ms", scale, name, rows,
+                "%.2f".formatted(LatencyStats.percentileMillis(sorted, 50)),
+                "%.2f".formatted(LatencyStats.percentileMillis(sorted, 99)),
+                "%.2f".formatted(LatencyStats.percentileMillis(sorted, 100)));
+    }
+
+    private static long execute(Query query, Dataset dataset) {
+        try (QueryExecution execution = QueryExecutionFactory.create(query, dataset)) {
+            if (query.isSelectType()) return ResultSetFormatter.consume(execution.execSelect());
+            if (query.isConstructType()) return execution.execConstruct().size();
+            if (query.isDescribeType()) return execution.execDescribe().size();
+            return execution.execAsk() ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package tech.artcoded.csvtottl.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.RDFDataMgr;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import tech.artcoded.csvtottl.utils.LatencyStats;
+import tech.artcoded.csvtottl.utils.UploadClient;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static tech.artcoded.csvtottl.transformer.CsvToSubset.getBatches;
+
+/**
+ * Replays a generated batch directory against an embedded stub endpoint
+ * and reports upload latency and throughput. Run with the "loadtest" profile.
+ */
+@Service
+@Profile("loadtest")
+@Slf4j
+public class UploadLoadTest implements CommandLineRunner {
+    @Value("${loadtest.batchDir:/tmp/bce_ttl_batch}")
+    private String batchDir;
+    @Value("${loadtest.client:VIRTUOSO}")
+    private UploadClient client;
+    @Value("${loadtest.concurrency:4}")
+    private int concurrency;
+    // parsed chunks allowed to wait for or be in an upload, at least concurrency to keep every worker busy
+    @Value("${loadtest.pendingChunks:8}")
+    private int pendingChunks;
+    @Value("${loadtest.chunkSize:10000}")
+    private int chunkSize;
+    @Value("${loadtest.timeoutMs:60000}")
+    private int timeoutMs;
+    @Value("${loadtest.graph:http://bittich.be/graphs/bce}")
+    private String graphUri;
+    @Value("${loadtest.port:0}")
+    private int port;
+    @Value("${loadtest.latencyMs:0}")
+    private long latencyMs;
+    @Value("${loadtest.jitterMs:0}")
+    private long jitterMs;
+    @Value("${loadtest.errorRate:0}")
+    private double errorRate;
+
+    @Override
+    public void run(String... args) throws Exception {
+        File[] files = Optional.ofNullable(new File(batchDir).listFiles((dir, name) -> name.endsWith(".ttl")))
+                .filter(f -> f.length > 0)
+                .orElseThrow(() -> new RuntimeException("no .ttl batch found in %s, run the converter first".formatted(batchDir)));
+        Arrays.sort(files, Comparator.comparing(File::getName));
+
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong triples = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        Semaphore inFlight = new Semaphore(Math.max(pendingChunks, concurrency));
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        log.info("load test: {} files, client {}, concurrency {}, chunk size {}, latency {}ms (+{}ms), error rate {}",
+                files.length, client, concurrency, chunkSize, latencyMs, jitterMs, errorRate);
+
+        try (StubSparqlEndpoint stub = new StubSparqlEndpoint(port, concurrency, latencyMs, jitterMs, errorRate);
+             UploadClient.Uploader uploader = client.connect(stub.getHost(), "loadtest", "loadtest", concurrency, timeoutMs)) {
+            long start = System.nanoTime();
+
+            for (File file : files) {
+                Model model = RDFDataMgr.loadModel(file.getAbsolutePath());
+                List<Statement> statements = model.listStatements().toList();
+                for (List<Statement> chunk : getBatches(statements, chunkSize)) {
+                    Model chunkModel = ModelFactory.createDefaultModel().add(chunk);
+                    inFlight.acquire();
+                    executor.submit(() -> {
+                        long requestStart = System.nanoTime();
+                        try {
+                            uploader.upload(chunkModel, graphUri);
+                            triples.addAndGet(chunkModel.size());
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                            log.debug("upload failed", e);
+                        } finally {
+                            latencies.add(System.nanoTime() - requestStart);
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.DAYS);
+
+            double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+            List<Long> sorted = LatencyStats.sorted(latencies);
+            log.info("requests: {}, failed: {} (stub injected {})", sorted.size(), failures.get(), stub.getErrors().get());
+            log.info("latency p50: {} ms, p99: {} ms, max: {} ms",
+                    "%.1f".formatted(LatencyStats.percentileMillis(sorted, 50)),
+                    "%.1f".formatted(LatencyStats.percentileMillis(sorted, 99)),
+                    "%.1f".formatted(LatencyStats.percentileMillis(sorted, 100)));
+            log.info("duration: {} s, {} bytes/s, {} triples/s",
+                    "%.2f".formatted(seconds),
+                    "%.0f".formatted(stub.getBytesReceived().get() / seconds),
+                    "%.0f".formatted(triples.get() / seconds));
+        } finally {
+            executor.shutdownNow();
+        }
+        System.exit(0);
+    }
+}
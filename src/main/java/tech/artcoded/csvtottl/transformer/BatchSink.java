@@ -0,0 +1,15 @@
+package tech.artcoded.csvtottl.transformer;
+
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * Destination of the models produced by {@link CsvToSubset}, one call per batch.
+ */
+public interface BatchSink extends AutoCloseable {
+
+    void write(String name, Model model);
+
+    @Override
+    default void close() {
+    }
+}
@@ -2,29 +2,29 @@ package tech.artcoded.csvtottl.transformer;
 
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.ResourceFactory;
-import org.apache.jena.riot.RDFDataMgr;
-import org.apache.jena.riot.RDFFormat;
 import org.apache.jena.sparql.vocabulary.FOAF;
 import org.apache.jena.vocabulary.ORG;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.apache.jena.vocabulary.VCARD;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import tech.artcoded.csvtottl.utils.CSVReaderUtils;
+import tech.artcoded.csvtottl.utils.CSVWriterUtils;
 import tech.artcoded.csvtottl.utils.CsvDto;
+import tech.artcoded.csvtottl.utils.IdDictionary;
+import tech.artcoded.csvtottl.utils.StringDictionary;
+import tech.artcoded.csvtottl.utils.UploadClient;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -33,13 +33,23 @@ import static java.util.stream.Collectors.toList;
 
 @Service
 @Slf4j
-public class CsvToSubset implements CommandLineRunner {
+public class CsvToSubset {
     private static final String NAMESPACE_PREFIX = "http://bittich.be/bce";
     private static final org.apache.jena.rdf.model.Resource CODE_TYPE = ResourceFactory.createResource(NAMESPACE_PREFIX + "/Code");
     private static final org.apache.jena.rdf.model.Resource DENOMINATION_TYPE = ResourceFactory.createResource(NAMESPACE_PREFIX + "/Denomination");
     private static final org.apache.jena.rdf.model.Resource CONTACT_TYPE = ResourceFactory.createResource(NAMESPACE_PREFIX + "/Contact");
     private static final org.apache.jena.rdf.model.Resource ADDR_TYPE = ResourceFactory.createResource(NAMESPACE_PREFIX + "/Address");
+    private static final org.apache.jena.rdf.model.Resource MUNICIPALITY_TYPE = ResourceFactory.createResource(NAMESPACE_PREFIX + "/Municipality");
+    private static final org.apache.jena.rdf.model.Resource STREET_TYPE = ResourceFactory.createResource(NAMESPACE_PREFIX + "/Street");
+    private static final org.apache.jena.rdf.model.Resource POSTCODE_TYPE = ResourceFactory.createResource(NAMESPACE_PREFIX + "/Postcode");
+    private static final Set<String> INTERNED_ADDRESS_COLUMNS = Set.of("TypeOfAddress", "CountryFR", "CountryNL", "Zipcode",
+            "MunicipalityFR", "MunicipalityNL", "StreetFR", "StreetNL");
     private static final Property MU_UUID = ResourceFactory.createProperty("http://mu.semte.ch/vocabularies/core/uuid");
+    private static final Map<String, Property> CONTACT_TYPES = Map.of("EMAIL", FOAF.mbox, "WEB", FOAF.homepage, "TEL", FOAF.phone);
+    private static final String DEFAULT_LANG = "fr";
+    // multi-valued summary cells are joined with '|', a '|' or '\' inside a value is escaped with '\'
+    private static final String SUMMARY_SEPARATOR = "|";
+    private static final String[] SUMMARY_TITLES = {"EnterpriseNumber", "Organization", "Language", "Name", "JuridicalSituation", "Website", "Email", "Phone"};
 
     @Value("classpath:code.csv")
     private Resource codeCsv;
@@ -49,10 +59,35 @@ public class CsvToSubset implements CommandLineRunner {
     private Resource denominationCsv;
     @Value("classpath:contact.csv")
     private Resource contactCsv;
-    @Value("${chunkSize:4000}")
-    private int chunkSize;
     @Value("classpath:address.csv")
     private Resource addressCsv;
+    // the summary is a csv file in batchDir, so by default only the ttl output writes it
+    @Value("${writeSummary:#{null}}")
+    private Boolean writeSummary;
+    @Value("${internAddresses:false}")
+    private boolean internAddresses;
+    @Value("${output:ttl}")
+    private String output;
+    @Value("${tdb2.location:/tmp/bce_tdb2}")
+    private String tdb2Location;
+    @Value("${tdb2.overwrite:false}")
+    private boolean tdb2Overwrite;
+    @Value("${upload.client:VIRTUOSO}")
+    private UploadClient uploadClient;
+    @Value("${upload.host:http://localhost:8890}")
+    private String uploadHost;
+    @Value("${upload.graph:http://bittich.be/graphs/bce}")
+    private String uploadGraph;
+    @Value("${upload.username:dba}")
+    private String uploadUsername;
+    @Value("${upload.password:dba}")
+    private String uploadPassword;
+    @Value("${upload.maxInFlight:4}")
+    private int uploadMaxInFlight;
+    @Value("${upload.timeoutMs:60000}")
+    private int uploadTimeoutMs;
+    @Value("${upload.retries:2}")
+    private int uploadRetries;
 
     public static <T> List<List<T>> getBatches(List<T> collection, int batchSize) {
         return IntStream.iterate(0, i -> i < collection.size(), i -> i + batchSize)
@@ -62,30 +97,63 @@ public class CsvToSubset implements CommandLineRunner {
 
     @SneakyThrows
     public void transform(int batchSize, File batchDir) {
-        Model codesToModel = codesToModel(batchDir);
-        generateBatch(codesToModel, batchSize, batchDir);
-    }
-
-
-    @SneakyThrows
-    private void generateBatch(Model codesToModel, int batchSize, File batchDir) {
         // LOAD CSVs
         log.info("load csvs...");
+        List<Map<String, String>> csvCodes = CSVReaderUtils.readMap(codeCsv.getInputStream());
         CsvDto csvEnterprises = CSVReaderUtils.readObj(entrepriseCsv.getInputStream());
         CsvDto csvContacts = CSVReaderUtils.readObj(contactCsv.getInputStream());
         CsvDto csvDdenominations = CSVReaderUtils.readObj(denominationCsv.getInputStream());
-        CsvDto csvAddresses = CSVReaderUtils.readObj(addressCsv.getInputStream());
+        CsvDto csvAddresses = internAddresses ? readInternedAddresses() : CSVReaderUtils.readObj(addressCsv.getInputStream());
 
         log.info("load csvs done");
+        try (BatchSink sink = openSink(batchDir)) {
+            transform(batchSize, batchDir, sink, csvCodes, csvEnterprises, csvContacts, csvDdenominations, csvAddresses);
+        }
+    }
+
+    public void transform(int batchSize, File batchDir, BatchSink sink, List<Map<String, String>> csvCodes, CsvDto csvEnterprises,
+                          CsvDto csvContacts, CsvDto csvDdenominations, CsvDto csvAddresses) {
+        IdDictionary addressIds = new IdDictionary();
+        Model codesToModel = codesToModel(csvCodes, sink);
+        if (internAddresses) {
+            addressPartsToModel(csvAddresses.getCsv(), addressIds, sink);
+        }
+        generateBatch(codesToModel, csvEnterprises, csvContacts, csvDdenominations, csvAddresses, addressIds, batchSize, batchDir, sink);
+    }
+
+    // only the columns with few distinct values are interned, the dictionary is dropped once the csv is loaded
+    @SneakyThrows
+    private CsvDto readInternedAddresses() {
+        StringDictionary addressValues = new StringDictionary();
+        CsvDto csvAddresses = CSVReaderUtils.readObj(addressCsv.getInputStream(),
+                (column, value) -> INTERNED_ADDRESS_COLUMNS.contains(column) ? addressValues.intern(value) : value);
+        log.info("{} distinct address values", addressValues.size());
+        return csvAddresses;
+    }
+
+    private BatchSink openSink(File batchDir) {
+        return switch (output) {
+            case "tdb2" -> new Tdb2Sink(tdb2Location, tdb2Overwrite);
+            case "upload" -> new UploadSink(uploadClient, uploadGraph, uploadHost, uploadUsername, uploadPassword,
+                    uploadMaxInFlight, uploadTimeoutMs, uploadRetries, batchDir);
+            case "ttl" -> new TurtleFileSink(batchDir);
+            default -> throw new RuntimeException("unknown output '%s', expected one of ttl, tdb2, upload".formatted(output));
+        };
+    }
+
+
+    @SneakyThrows
+    private void generateBatch(Model codesToModel, CsvDto csvEnterprises, CsvDto csvContacts, CsvDto csvDdenominations,
+                               CsvDto csvAddresses, IdDictionary addressIds, int batchSize, File batchDir, BatchSink sink) {
 
         // LOAD enriched data
         log.info("load enriched data...");
         Map<String, List<Map<String, String>>> contactsGroupedByEnterpriseNumber = csvContacts.getCsv()
-                .stream().collect(Collectors.groupingBy(map -> map.get("EntityNumber").replaceAll("\\.", "")));
+                .stream().collect(Collectors.groupingBy(map -> entityNumber(map.get("EntityNumber"))));
         Map<String, List<Map<String, String>>> denominationsGroupedByEnterpriseNumber = csvDdenominations.getCsv().stream().
-                collect(Collectors.groupingBy(map -> map.get("EntityNumber").replaceAll("\\.", "")));
+                collect(Collectors.groupingBy(map -> entityNumber(map.get("EntityNumber"))));
         Map<String, List<Map<String, String>>> addressesGroupedByEnterpriseNumber = csvAddresses.getCsv().stream().
-                collect(Collectors.groupingBy(map -> map.get("EntityNumber").replaceAll("\\.", "")));
+                collect(Collectors.groupingBy(map -> entityNumber(map.get("EntityNumber"))));
         log.info("load enriched data done");
 
 
@@ -97,7 +165,7 @@ public class CsvToSubset implements CommandLineRunner {
                 log.info("load enterprise model...");
                 Model model = enterprisesToModel(batch, codesToModel);
                 Set<String> enterpriseNumbers = batch.stream()
-                        .map(map -> map.get("EnterpriseNumber").replaceAll("\\.", ""))
+                        .map(map -> entityNumber(map.get("EnterpriseNumber")))
                         .collect(Collectors.toSet());
                 log.info("enrich model with contacts...");
 
@@ -127,9 +195,19 @@ public class CsvToSubset implements CommandLineRunner {
                         .flatMap(Collection::stream)
                         .collect(Collectors.toList());
 
-                enrichModelWithAddress(model, adressesForEnterprises, codesToModel);
+                if (internAddresses) {
+                    enrichModelWithAddressRows(model, adressesForEnterprises, codesToModel, addressIds);
+                } else {
+                    enrichModelWithAddress(model, adressesForEnterprises, codesToModel);
+                }
+
+                sink.write("%s".formatted(timestamp), model);
 
-                RDFDataMgr.write(new FileOutputStream(new File(batchDir, "%s.ttl".formatted(timestamp))), model, RDFFormat.TURTLE);
+                if (writesSummary()) {
+                    log.info("write summary...");
+                    List<String[]> summary = summarize(batch, denominationsGroupedByEnterpriseNumber, contactsGroupedByEnterpriseNumber, codesToModel);
+                    CSVWriterUtils.write(new File(batchDir, "%s-summary.csv".formatted(timestamp)), SUMMARY_TITLES, summary);
+                }
                 Thread.sleep(100);
             } catch (Exception e) {
                 log.error("error", e);
@@ -140,6 +218,14 @@ public class CsvToSubset implements CommandLineRunner {
 
     }
 
+    private boolean writesSummary() {
+        return ofNullable(writeSummary).orElse("ttl".equals(output));
+    }
+
+    private static String entityNumber(String number) {
+        return number.replaceAll("\\.", "");
+    }
+
     private void enrichModelWithDenominations(Model model, List<Map<String, String>> denominationsForEnterprises, Model codesToModel) {
         Map<String, List<Map<String, String>>> groupedResources = denominationsForEnterprises.stream().
                 collect(Collectors.groupingBy(map -> map.get("EntityNumber").replaceAll("\\.", "").toUpperCase()));
@@ -152,13 +238,7 @@ public class CsvToSubset implements CommandLineRunner {
                 var organizationUri = "%s/%s/%s".formatted(NAMESPACE_PREFIX, "company", enterpriseNumber);
                 org.apache.jena.rdf.model.Resource js = model.getResource(organizationUri);
                 model.add(resource, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/denominationBelongsTo"), js);
-                String lang = switch (v.get("Language")) {
-                    case "2" -> "nl";
-                    case "3" -> "de";
-                    case "4" -> "en";
-                    default -> "fr";
-                };
-                return Map.entry(v.get("Denomination"), lang);
+                return Map.entry(v.get("Denomination"), denominationLanguage(v.get("Language")));
             })
                     .filter(entry -> StringUtils.isNotEmpty(entry.getKey()) && StringUtils.isNotEmpty(entry.getValue()))
                     .forEach(entry -> {
@@ -169,6 +249,96 @@ public class CsvToSubset implements CommandLineRunner {
         });
     }
 
+    private static String denominationLanguage(String languageCode) {
+        return switch (ofNullable(languageCode).orElse("")) {
+            case "2" -> "nl";
+            case "3" -> "de";
+            case "4" -> "en";
+            default -> DEFAULT_LANG;
+        };
+    }
+
+    // denormalized view of the batch (one row per enterprise and language), same shape as the joins in query.sparql
+    private List<String[]> summarize(List<Map<String, String>> batch,
+                                     Map<String, List<Map<String, String>>> denominationsGroupedByEnterpriseNumber,
+                                     Map<String, List<Map<String, String>>> contactsGroupedByEnterpriseNumber,
+                                     Model codesToModel) {
+        Map<String, List<Map<String, String>>> enterprisesGrouped = batch.stream()
+                .collect(Collectors.groupingBy(map -> entityNumber(map.get("EnterpriseNumber")), TreeMap::new, toList()));
+
+        List<String[]> rows = new ArrayList<>();
+        enterprisesGrouped.forEach((entityNumber, lines) -> {
+            String enterpriseNumber = entityNumber.toUpperCase();
+            String organizationUri = "%s/%s/%s".formatted(NAMESPACE_PREFIX, "company", enterpriseNumber);
+            Optional<String> juridicalSituationUri = lines.stream()
+                    .map(line -> line.get("JuridicalSituation"))
+                    .filter(StringUtils::isNotEmpty)
+                    .findFirst()
+                    .map(jsCode -> "%s/%s/%s".formatted(NAMESPACE_PREFIX, "code", ("JuridicalSituation" + jsCode).toUpperCase()));
+
+            List<Map<String, String>> contacts = contactsGroupedByEnterpriseNumber.getOrDefault(entityNumber, List.of());
+            String website = contactValues(contacts, FOAF.homepage);
+            String email = contactValues(contacts, FOAF.mbox);
+            String phone = contactValues(contacts, FOAF.phone);
+
+            Map<String, List<String>> namesByLang = denominationsGroupedByEnterpriseNumber.getOrDefault(entityNumber, List.of()).stream()
+                    .filter(v -> StringUtils.isNotEmpty(v.get("Denomination")))
+                    .collect(Collectors.groupingBy(v -> denominationLanguage(v.get("Language")), TreeMap::new,
+                            Collectors.mapping(v -> v.get("Denomination"), toList())));
+            if (namesByLang.isEmpty()) {
+                namesByLang = Map.of(DEFAULT_LANG, List.of());
+            }
+
+            namesByLang.forEach((lang, names) -> rows.add(new String[]{
+                    enterpriseNumber,
+                    organizationUri,
+                    lang,
+                    joinSummaryValues(names),
+                    juridicalSituationUri.map(uri -> codeLabel(codesToModel, uri, lang)).orElse(""),
+                    website,
+                    email,
+                    phone
+            }));
+        });
+        return rows;
+    }
+
+    // contact csv types, shared by the contact triples and the summary
+    private static Optional<Property> contactProperty(Map<String, String> contact) {
+        return ofNullable(CONTACT_TYPES.get(ofNullable(contact.get("ContactType")).orElse("")));
+    }
+
+    private static String contactValues(List<Map<String, String>> contacts, Property property) {
+        return contacts.stream()
+                .filter(v -> contactProperty(v).filter(property::equals).isPresent())
+                .map(v -> v.get("Value"))
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.collectingAndThen(toList(), CsvToSubset::joinSummaryValues));
+    }
+
+    private static String joinSummaryValues(List<String> values) {
+        return values.stream()
+                .distinct()
+                .map(value -> value.replace("\\", "\\\\").replace(SUMMARY_SEPARATOR, "\\" + SUMMARY_SEPARATOR))
+                .collect(Collectors.joining(SUMMARY_SEPARATOR));
+    }
+
+    private static String codeLabel(Model codesToModel, String codeUri, String lang) {
+        List<org.apache.jena.rdf.model.Literal> labels = codesToModel.getResource(codeUri).listProperties(RDFS.label)
+                .mapWith(org.apache.jena.rdf.model.Statement::getLiteral)
+                .toList();
+        return labelInLanguage(labels, lang)
+                .or(() -> labelInLanguage(labels, DEFAULT_LANG))
+                .orElse("");
+    }
+
+    private static Optional<String> labelInLanguage(List<org.apache.jena.rdf.model.Literal> labels, String lang) {
+        return labels.stream()
+                .filter(label -> lang.equalsIgnoreCase(label.getLanguage()))
+                .findFirst()
+                .map(org.apache.jena.rdf.model.Literal::getString);
+    }
+
     private void enrichModelWithAddress(Model model, List<Map<String, String>> addressesForEnterprises, Model codesToModel) {
         Map<String, List<Map<String, String>>> groupedResources = addressesForEnterprises.stream().
                 collect(Collectors.groupingBy(map -> map.get("EntityNumber").replaceAll("\\.", "").toUpperCase()));
@@ -180,11 +350,7 @@ public class CsvToSubset implements CommandLineRunner {
                 var organizationUri = "%s/%s/%s".formatted(NAMESPACE_PREFIX, "company", enterpriseNumber);
                 org.apache.jena.rdf.model.Resource org = model.getResource(organizationUri);
                 model.add(resource, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/addressBelongsTo"), org);
-                ofNullable(v.get("TypeOfAddress")).filter(StringUtils::isNotEmpty).map(toa -> "%s/%s/%s".formatted(NAMESPACE_PREFIX, "code", ("TypeOfAddress" + toa).toUpperCase()))
-                        .ifPresentOrElse(toaUri -> {
-                            org.apache.jena.rdf.model.Resource toa = codesToModel.getResource(toaUri);
-                            model.add(resource, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/hasAddressType"), toa);
-                        }, () -> log.trace("'type of address' not found"));
+                addAddressType(model, resource, v, codesToModel);
 
                 String streetFr = ofNullable(v.get("StreetFR")).orElse("");
                 String municipalityFr = ofNullable(v.get("MunicipalityFR")).orElse("");
@@ -223,6 +389,119 @@ public class CsvToSubset implements CommandLineRunner {
 
     }
 
+    // one address per csv row, so that the street, postcode and house number of a row stay together
+    private void enrichModelWithAddressRows(Model model, List<Map<String, String>> addressesForEnterprises, Model codesToModel,
+                                            IdDictionary addressIds) {
+        addressesForEnterprises.forEach(v -> {
+            String enterpriseNumber = entityNumber(v.get("EntityNumber")).toUpperCase();
+            String id = IdDictionary.nameId("address|%s".formatted(addressRowKey(v)));
+            org.apache.jena.rdf.model.Resource resource = model.createResource("%s/%s/%s".formatted(NAMESPACE_PREFIX, "address", id));
+            resource.addProperty(MU_UUID, ResourceFactory.createStringLiteral(id));
+            var organizationUri = "%s/%s/%s".formatted(NAMESPACE_PREFIX, "company", enterpriseNumber);
+            model.add(resource, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/addressBelongsTo"), model.getResource(organizationUri));
+            addAddressType(model, resource, v, codesToModel);
+            linkSharedAddressParts(model, resource, v, addressIds);
+            model.add(resource, RDF.type, ADDR_TYPE);
+        });
+    }
+
+    private void addAddressType(Model model, org.apache.jena.rdf.model.Resource address, Map<String, String> v, Model codesToModel) {
+        ofNullable(v.get("TypeOfAddress")).filter(StringUtils::isNotEmpty).map(toa -> "%s/%s/%s".formatted(NAMESPACE_PREFIX, "code", ("TypeOfAddress" + toa).toUpperCase()))
+                .ifPresentOrElse(toaUri -> {
+                    org.apache.jena.rdf.model.Resource toa = codesToModel.getResource(toaUri);
+                    model.add(address, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/hasAddressType"), toa);
+                }, () -> log.trace("'type of address' not found"));
+    }
+
+    // postcodes, municipalities and streets are shared resources, all written once in <timestamp>-address.ttl before the batches
+    @SneakyThrows
+    private void addressPartsToModel(List<Map<String, String>> csvAddresses, IdDictionary addressIds, BatchSink sink) {
+        long timestamp = System.currentTimeMillis();
+        Model model = ModelFactory.createDefaultModel();
+        csvAddresses.forEach(v -> {
+            postcodeKey(v).ifPresent(key -> sharedResource(model, addressIds, "postcode", POSTCODE_TYPE, key,
+                    resource -> resource.addProperty(VCARD.Pcode, ResourceFactory.createStringLiteral(addressValue(v, "Zipcode")))));
+            municipalityKey(v).ifPresent(key -> sharedResource(model, addressIds, "municipality", MUNICIPALITY_TYPE, key,
+                    resource -> addLabels(resource, addressValue(v, "MunicipalityFR"), addressValue(v, "MunicipalityNL"))));
+            streetKey(v).ifPresent(key -> sharedResource(model, addressIds, "street", STREET_TYPE, key,
+                    resource -> addLabels(resource, addressValue(v, "StreetFR"), addressValue(v, "StreetNL"))));
+        });
+        sink.write("%s-address".formatted(timestamp), model);
+        Thread.sleep(100);
+    }
+
+    private void linkSharedAddressParts(Model model, org.apache.jena.rdf.model.Resource address, Map<String, String> v, IdDictionary addressIds) {
+        postcodeKey(v).ifPresent(key -> model.add(address, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/hasPostcode"),
+                model.createResource(sharedResourceUri(addressIds, "postcode", key))));
+        municipalityKey(v).ifPresent(key -> model.add(address, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/hasMunicipality"),
+                model.createResource(sharedResourceUri(addressIds, "municipality", key))));
+        streetKey(v).ifPresent(key -> model.add(address, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/hasStreet"),
+                model.createResource(sharedResourceUri(addressIds, "street", key))));
+
+        String houseNumber = addressValue(v, "HouseNumber");
+        if (StringUtils.isNotEmpty(houseNumber)) {
+            address.addProperty(ResourceFactory.createProperty(NAMESPACE_PREFIX + "/houseNumber"), ResourceFactory.createStringLiteral(houseNumber));
+        }
+    }
+
+    private void sharedResource(Model model, IdDictionary addressIds, String path, org.apache.jena.rdf.model.Resource type, String key,
+                                Consumer<org.apache.jena.rdf.model.Resource> describe) {
+        String dictionaryKey = "%s|%s".formatted(path, key);
+        if (addressIds.contains(dictionaryKey)) {
+            return;
+        }
+        String id = addressIds.idOf(dictionaryKey);
+        org.apache.jena.rdf.model.Resource resource = model.createResource("%s/%s/%s".formatted(NAMESPACE_PREFIX, path, id));
+        resource.addProperty(MU_UUID, ResourceFactory.createStringLiteral(id));
+        describe.accept(resource);
+        model.add(resource, RDF.type, type);
+    }
+
+    private static String sharedResourceUri(IdDictionary addressIds, String path, String key) {
+        return "%s/%s/%s".formatted(NAMESPACE_PREFIX, path, addressIds.idOf("%s|%s".formatted(path, key)));
+    }
+
+    // foreign addresses carry a country, belgian ones leave it empty
+    static Optional<String> postcodeKey(Map<String, String> v) {
+        return Optional.of(addressValue(v, "Zipcode"))
+                .filter(StringUtils::isNotEmpty)
+                .map(zipcode -> "%s|%s|%s".formatted(addressValue(v, "CountryFR"), addressValue(v, "CountryNL"), zipcode));
+    }
+
+    static Optional<String> municipalityKey(Map<String, String> v) {
+        String municipalityFr = addressValue(v, "MunicipalityFR");
+        String municipalityNl = addressValue(v, "MunicipalityNL");
+        if (StringUtils.isEmpty(municipalityFr) && StringUtils.isEmpty(municipalityNl)) return Optional.empty();
+        return Optional.of("%s|%s|%s|%s".formatted(addressValue(v, "CountryFR"), addressValue(v, "CountryNL"), municipalityFr, municipalityNl));
+    }
+
+    static Optional<String> streetKey(Map<String, String> v) {
+        String streetFr = addressValue(v, "StreetFR");
+        String streetNl = addressValue(v, "StreetNL");
+        if (StringUtils.isEmpty(streetFr) && StringUtils.isEmpty(streetNl)) return Optional.empty();
+        return Optional.of("%s|%s|%s|%s|%s".formatted(addressValue(v, "CountryFR"), addressValue(v, "CountryNL"),
+                addressValue(v, "Zipcode"), streetFr, streetNl));
+    }
+
+    static String addressRowKey(Map<String, String> v) {
+        return "%s|%s|%s|%s|%s|%s|%s|%s|%s".formatted(entityNumber(addressValue(v, "EntityNumber")).toUpperCase(),
+                addressValue(v, "TypeOfAddress"), addressValue(v, "CountryFR"), addressValue(v, "CountryNL"), addressValue(v, "Zipcode"),
+                addressValue(v, "StreetFR"), addressValue(v, "StreetNL"), addressValue(v, "HouseNumber"), addressValue(v, "Box"));
+    }
+
+    private static String addressValue(Map<String, String> v, String column) {
+        return ofNullable(v.get(column)).orElse("");
+    }
+
+    private static void addLabels(org.apache.jena.rdf.model.Resource resource, String labelFr, String labelNl) {
+        if (StringUtils.isNotEmpty(labelFr)) {
+            resource.addProperty(RDFS.label, ResourceFactory.createLangLiteral(labelFr, "fr"));
+        }
+        if (StringUtils.isNotEmpty(labelNl)) {
+            resource.addProperty(RDFS.label, ResourceFactory.createLangLiteral(labelNl, "nl"));
+        }
+    }
+
     private void enrichModelWithContacts(Model model, List<Map<String, String>> contactsForEnterprises, Model codesToModel) {
         Map<String, List<Map<String, String>>> groupedResources = contactsForEnterprises.stream().
                 collect(Collectors.groupingBy(map -> map.get("EntityNumber").replaceAll("\\.", "").toUpperCase()));
@@ -236,17 +515,9 @@ public class CsvToSubset implements CommandLineRunner {
                 org.apache.jena.rdf.model.Resource js = model.getResource(organizationUri);
                 model.add(resource, ResourceFactory.createProperty(NAMESPACE_PREFIX + "/contactBelongsTo"), js);
 
-                ofNullable(v.get("ContactType")).filter(StringUtils::isNotEmpty)
-                        .ifPresentOrElse(contactType -> {
-                            if ("EMAIL".equals(contactType)) {
-                                resource.addLiteral(FOAF.mbox, ResourceFactory.createStringLiteral(v.get("Value")));
-                            } else if ("WEB".equals(contactType)) {
-                                resource.addLiteral(FOAF.homepage, ResourceFactory.createStringLiteral(v.get("Value")));
-                            } else if ("TEL".equals(contactType)) {
-                                resource.addLiteral(FOAF.phone, ResourceFactory.createStringLiteral(v.get("Value")));
-                            }
-
-                        }, () -> log.trace("'contact type' not found"));
+                contactProperty(v)
+                        .ifPresentOrElse(contactProperty -> resource.addLiteral(contactProperty, ResourceFactory.createStringLiteral(v.get("Value"))),
+                                () -> log.trace("'contact type' not found"));
 
             });
 
@@ -257,12 +528,10 @@ public class CsvToSubset implements CommandLineRunner {
     }
 
     @SneakyThrows
-    private Model codesToModel(File batchDir) {
+    private Model codesToModel(List<Map<String, String>> csvCodes, BatchSink sink) {
         long timestamp = System.currentTimeMillis();
         Model model = ModelFactory.createDefaultModel();
 
-        List<Map<String, String>> csvCodes = CSVReaderUtils.readMap(codeCsv.getInputStream());
-
         Map<String, List<Map<String, String>>> groupedResources = csvCodes.stream().
                 collect(Collectors.groupingBy(map -> "%s%s".formatted(map.get("Category"), map.get("Code"))));
 
@@ -274,7 +543,7 @@ public class CsvToSubset implements CommandLineRunner {
             value.forEach(lang -> resource.addLiteral(RDFS.label, ResourceFactory.createLangLiteral(lang.get("Description"), lang.get("Language").toLowerCase())));
             model.add(resource, RDF.type, CODE_TYPE);
         });
-        RDFDataMgr.write(new FileOutputStream(new File(batchDir, "%s-code.ttl".formatted(timestamp))), model, RDFFormat.TURTLE);
+        sink.write("%s-code".formatted(timestamp), model);
         Thread.sleep(100);
         return model;
 
@@ -328,19 +597,4 @@ public class CsvToSubset implements CommandLineRunner {
         return model;
     }
 
-
-    @Override
-    public void run(String... args) throws Exception {
-        File batchDir = new File("/tmp/bce_ttl_batch");
-        if (batchDir.exists()) {
-            FileUtils.deleteDirectory(batchDir);
-        }
-        batchDir.mkdir();
-
-        log.info("start batch...");
-        this.transform(chunkSize, batchDir);
-        log.info("batch done.");
-        System.exit(0);
-
-    }
 }
@@ -0,0 +1,38 @@
+package tech.artcoded.csvtottl.transformer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+
+@Service
+@Profile("!loadtest & !benchmark")
+@Slf4j
+public class CsvToSubsetRunner implements CommandLineRunner {
+    private final CsvToSubset csvToSubset;
+    @Value("${chunkSize:4000}")
+    private int chunkSize;
+
+    public CsvToSubsetRunner(CsvToSubset csvToSubset) {
+        this.csvToSubset = csvToSubset;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        File batchDir = new File("/tmp/bce_ttl_batch");
+        if (batchDir.exists()) {
+            FileUtils.deleteDirectory(batchDir);
+        }
+        batchDir.mkdir();
+
+        log.info("start batch...");
+        csvToSubset.transform(chunkSize, batchDir);
+        log.info("batch done.");
+        System.exit(0);
+
+    }
+}
@@ -0,0 +1,78 @@
+package tech.artcoded.csvtottl.transformer;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDFOps;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.jena.tdb2.loader.DataLoader;
+import org.apache.jena.tdb2.loader.LoaderFactory;
+import org.apache.jena.tdb2.loader.base.MonitorOutput;
+
+import java.io.File;
+
+/**
+ * Writes the batches straight into a local TDB2 database through the TDB2 bulk loader,
+ * one loader transaction per batch, skipping the turtle serialize / parse round trip.
+ */
+@Slf4j
+public class Tdb2Sink implements BatchSink {
+    private static final MonitorOutput LOG_OUTPUT = (fmt, args) -> {
+        if (log.isDebugEnabled()) {
+            log.debug(String.format(fmt, args));
+        }
+    };
+    private final DatasetGraph datasetGraph;
+
+    public Tdb2Sink(String location, boolean overwrite) {
+        prepareLocation(new File(location), overwrite);
+        this.datasetGraph = DatabaseMgr.connectDatasetGraph(location);
+        log.info("writing batches to tdb2 database {}", location);
+    }
+
+    // the location is user supplied: only ever delete a directory that holds a tdb2 database, and only when asked to
+    @SneakyThrows
+    private static void prepareLocation(File location, boolean overwrite) {
+        if (location.isFile()) {
+            throw new RuntimeException("tdb2 location %s is a file".formatted(location));
+        }
+        String[] content = location.list();
+        if (content == null || content.length == 0) {
+            return;
+        }
+        if (!isTdb2Database(location)) {
+            throw new RuntimeException("tdb2 location %s is not empty and is not a tdb2 database".formatted(location));
+        }
+        if (!overwrite) {
+            throw new RuntimeException("tdb2 location %s already holds a database, set tdb2.overwrite=true to replace it".formatted(location));
+        }
+        log.info("deleting tdb2 database {}", location);
+        FileUtils.deleteDirectory(location);
+    }
+
+    private static boolean isTdb2Database(File location) {
+        File[] dataDirs = location.listFiles(file -> file.isDirectory() && file.getName().startsWith("Data-"));
+        return new File(location, "tdb.lock").isFile() && dataDirs != null && dataDirs.length > 0;
+    }
+
+    @Override
+    public void write(String name, Model model) {
+        DataLoader loader = LoaderFactory.createLoader(datasetGraph, LOG_OUTPUT);
+        loader.startBulk();
+        try {
+            StreamRDFOps.sendTriplesToStream(model.getGraph().find(), loader.stream());
+            loader.finishBulk();
+        } catch (RuntimeException e) {
+            loader.finishException(e);
+            throw e;
+        }
+        log.info("batch {} loaded ({} triples)", name, model.size());
+    }
+
+    @Override
+    public void close() {
+        datasetGraph.close();
+    }
+}
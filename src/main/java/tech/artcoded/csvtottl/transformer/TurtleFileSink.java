@@ -0,0 +1,25 @@
+package tech.artcoded.csvtottl.transformer;
+
+import lombok.SneakyThrows;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+public class TurtleFileSink implements BatchSink {
+    private final File batchDir;
+
+    public TurtleFileSink(File batchDir) {
+        this.batchDir = batchDir;
+    }
+
+    @Override
+    @SneakyThrows
+    public void write(String name, Model model) {
+        try (FileOutputStream out = new FileOutputStream(new File(batchDir, "%s.ttl".formatted(name)))) {
+            RDFDataMgr.write(out, model, RDFFormat.TURTLE);
+        }
+    }
+}
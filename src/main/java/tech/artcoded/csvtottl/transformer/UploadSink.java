@@ -0,0 +1,99 @@
+package tech.artcoded.csvtottl.transformer;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jena.rdf.model.Model;
+import tech.artcoded.csvtottl.utils.UploadClient;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads the batches to the triple store as soon as they are generated.
+ * At most maxInFlight batches are pending, write blocks until one completes, so the converter
+ * runs at the pace of the store. An upload not answered within timeoutMs counts as a failed attempt,
+ * batches still failing after the retries are spilled to disk as turtle.
+ */
+@Slf4j
+public class UploadSink implements BatchSink {
+    private final UploadClient.Uploader uploader;
+    private final String graphUri;
+    private final int retries;
+    private final TurtleFileSink spill;
+    private final Semaphore inFlight;
+    private final ExecutorService executor;
+    private final AtomicInteger uploaded = new AtomicInteger();
+    private final AtomicInteger spilled = new AtomicInteger();
+
+    public UploadSink(UploadClient client, String graphUri, String host, String username, String password,
+                      int maxInFlight, int timeoutMs, int retries, File spillDir) {
+        this.uploader = client.connect(host, username, password, maxInFlight, timeoutMs);
+        this.graphUri = graphUri;
+        this.retries = retries;
+        this.spill = new TurtleFileSink(spillDir);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.executor = Executors.newFixedThreadPool(maxInFlight);
+        log.info("uploading batches to {} ({}), {} in flight max", host, client, maxInFlight);
+    }
+
+    @Override
+    @SneakyThrows
+    public void write(String name, Model model) {
+        inFlight.acquire();
+        try {
+            executor.submit(() -> {
+                try {
+                    upload(name, model);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void upload(String name, Model model) {
+        for (int attempt = 0; attempt <= retries; attempt++) {
+            try {
+                uploader.upload(model, graphUri);
+                uploaded.incrementAndGet();
+                log.info("batch {} uploaded ({} triples)", name, model.size());
+                return;
+            } catch (Exception e) {
+                log.warn("upload of batch {} failed (attempt {}/{})", name, attempt + 1, retries + 1, e);
+                sleepBeforeRetry(attempt);
+            }
+        }
+        try {
+            spill.write(name, model);
+            spilled.incrementAndGet();
+            log.error("batch {} spilled to disk", name);
+        } catch (Exception e) {
+            log.error("batch {} lost, could not spill it to disk", name, e);
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        if (attempt >= retries) return;
+        try {
+            Thread.sleep(1000L * (attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.DAYS);
+        uploader.close();
+        log.info("{} batches uploaded, {} spilled to disk", uploaded.get(), spilled.get());
+    }
+}
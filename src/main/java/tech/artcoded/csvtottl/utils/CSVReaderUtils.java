@@ -6,8 +6,10 @@ import lombok.SneakyThrows;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -27,6 +29,11 @@ public interface CSVReaderUtils {
 
     @SneakyThrows
     static CsvDto readObj(InputStream is){
+        return readObj(is, (column, value) -> value);
+    }
+
+    @SneakyThrows
+    static CsvDto readObj(InputStream is, BinaryOperator<String> valueMapper){
         try (CSVReader reader = new CSVReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
             List<String[]> lines = reader.readAll();
             Supplier<Exception> exc = () ->new RuntimeException("At least two lines must be in the csv, first one has to be the header");
@@ -34,8 +41,9 @@ public interface CSVReaderUtils {
                 throw exc.get();
             }
             String[] titles = lines.stream().findFirst().orElseThrow(exc);
+            String[] keys = Arrays.stream(titles).map(title -> title.replaceAll("\"","")).toArray(String[]::new);
             var csv = lines.stream().skip(1).map(strings -> IntStream.range(0, titles.length)
-                    .mapToObj(index -> Map.entry(titles[index].replaceAll("\"",""),strings[index].replaceAll("\"","").replaceAll("'"," ")))
+                    .mapToObj(index -> Map.entry(keys[index],valueMapper.apply(keys[index], strings[index].replaceAll("\"","").replaceAll("'"," "))))
                     .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)))
                     .collect(Collectors.toUnmodifiableList());
             return new CsvDto(titles,csv);
@@ -0,0 +1,21 @@
+package tech.artcoded.csvtottl.utils;
+
+import com.opencsv.CSVWriter;
+import lombok.SneakyThrows;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public interface CSVWriterUtils {
+
+    @SneakyThrows
+    static void write(File file, String[] titles, List<String[]> lines) {
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.writeNext(titles);
+            writer.writeAll(lines);
+        }
+    }
+}
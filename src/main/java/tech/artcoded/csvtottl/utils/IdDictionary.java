@@ -0,0 +1,31 @@
+package tech.artcoded.csvtottl.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hands out stable, name-based ids for keys, so that shared resources keep the same uri across batches and runs,
+ * and remembers which keys already got one.
+ */
+public class IdDictionary {
+    private final Map<String, String> ids = new HashMap<>();
+
+    public synchronized boolean contains(String key) {
+        return ids.containsKey(key);
+    }
+
+    public synchronized String idOf(String key) {
+        return ids.computeIfAbsent(key, IdDictionary::nameId);
+    }
+
+    // same id as idOf, without remembering the key
+    public static String nameId(String key) {
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,20 @@
+package tech.artcoded.csvtottl.utils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public interface LatencyStats {
+
+    static List<Long> sorted(Collection<Long> nanos) {
+        return nanos.stream().sorted().collect(Collectors.toList());
+    }
+
+    static double percentileMillis(List<Long> sortedNanos, double percentile) {
+        if (sortedNanos.isEmpty()) return 0;
+        int index = (int) Math.ceil(percentile / 100d * sortedNanos.size()) - 1;
+        long nanos = sortedNanos.get(Math.max(0, Math.min(index, sortedNanos.size() - 1)));
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -5,7 +5,9 @@ import org.apache.http.auth.Credentials;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdfconnection.RDFConnection;
@@ -13,16 +15,20 @@ import org.apache.jena.rdfconnection.RDFConnectionRemote;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+
 public interface SparqlUtil {
     Logger log = LoggerFactory.getLogger(SparqlUtil.class);
 
     static void load(Model model, String graphUri, String host, String username, String password){
-        CredentialsProvider credsProvider = new BasicCredentialsProvider();
-        Credentials credentials = new UsernamePasswordCredentials(username, password);
-        credsProvider.setCredentials(AuthScope.ANY, credentials);
-        HttpClient httpclient = HttpClients.custom()
-                .setDefaultCredentialsProvider(credsProvider)
-                .build();
+        try (CloseableHttpClient httpclient = httpClient(username, password, 2, 0)) {
+            load(model, graphUri, host, httpclient);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static void load(Model model, String graphUri, String host, HttpClient httpclient){
         try (RDFConnection conn = RDFConnectionRemote.create()
                 .destination(host)
                 .httpClient(httpclient)
@@ -33,4 +39,24 @@ public interface SparqlUtil {
         }
     }
 
+    /**
+     * Pooled client meant to be reused across loads to the same endpoint, the caller closes it.
+     */
+    static CloseableHttpClient httpClient(String username, String password, int maxConnections, int timeoutMs){
+        CredentialsProvider credsProvider = new BasicCredentialsProvider();
+        Credentials credentials = new UsernamePasswordCredentials(username, password);
+        credsProvider.setCredentials(AuthScope.ANY, credentials);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMs)
+                .setConnectionRequestTimeout(timeoutMs)
+                .setSocketTimeout(timeoutMs)
+                .build();
+        return HttpClients.custom()
+                .setDefaultCredentialsProvider(credsProvider)
+                .setDefaultRequestConfig(requestConfig)
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build();
+    }
+
 }
@@ -0,0 +1,24 @@
+package tech.artcoded.csvtottl.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Canonicalizes repeated values, one instance per distinct string.
+ */
+public class StringDictionary {
+    private final Map<String, String> values = new HashMap<>();
+
+    public synchronized String intern(String value) {
+        if (value == null) return null;
+        return values.computeIfAbsent(value, v -> v);
+    }
+
+    public synchronized boolean contains(String value) {
+        return values.containsKey(value);
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+}
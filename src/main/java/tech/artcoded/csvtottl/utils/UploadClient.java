@@ -0,0 +1,55 @@
+package tech.artcoded.csvtottl.utils;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.jena.rdf.model.Model;
+
+import java.io.IOException;
+
+public enum UploadClient {
+    VIRTUOSO {
+        @Override
+        public Uploader connect(String host, String username, String password, int maxConnections, int timeoutMs) {
+            // HttpURLConnection keeps at most http.maxConnections (default 5) idle connections per host.
+            // The JDK reads it once, so this only applies when set before the first keep-alive connection.
+            if (System.getProperty("http.maxConnections") == null) {
+                System.setProperty("http.maxConnections", Integer.toString(maxConnections));
+            }
+            return (model, graphUri) -> VirtuosoUploadUtils.uploadOrFail(model, graphUri, host, username, password, timeoutMs);
+        }
+    },
+    SPARQL {
+        @Override
+        public Uploader connect(String host, String username, String password, int maxConnections, int timeoutMs) {
+            CloseableHttpClient httpClient = SparqlUtil.httpClient(username, password, maxConnections, timeoutMs);
+            return new Uploader() {
+                @Override
+                public void upload(Model model, String graphUri) {
+                    SparqlUtil.load(model, graphUri, host, httpClient);
+                }
+
+                @Override
+                public void close() {
+                    try {
+                        httpClient.close();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+        }
+    };
+
+    /**
+     * Opens an uploader for one endpoint, to be shared by up to maxConnections concurrent uploads.
+     * An upload not answered within timeoutMs (0 waits forever) fails.
+     */
+    public abstract Uploader connect(String host, String username, String password, int maxConnections, int timeoutMs);
+
+    public interface Uploader extends AutoCloseable {
+        void upload(Model model, String graphUri) throws Exception;
+
+        @Override
+        default void close() {
+        }
+    }
+}
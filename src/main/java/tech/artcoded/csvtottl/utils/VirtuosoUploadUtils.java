@@ -4,6 +4,9 @@ import org.apache.jena.rdf.model.Model;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.net.Authenticator;
 import java.net.HttpURLConnection;
@@ -14,24 +17,32 @@ import java.nio.charset.StandardCharsets;
 public interface VirtuosoUploadUtils {
     Logger log = LoggerFactory.getLogger(VirtuosoUploadUtils.class);
     static void upload(Model model, String graphUri, String host, String username, String password) {
-            Authenticator.setDefault(new Authenticator() {
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(username, password.toCharArray());
-                }
-            });
-
         try {
-            StringWriter writer = new StringWriter();
-            model.write(writer, "TURTLE");
-
-            String sparqlUrl = host + "/sparql" + "-graph-crud-auth?graph-uri=" + graphUri;
-            loadIntoGraph_exception(writer.toString().getBytes(StandardCharsets.UTF_8), sparqlUrl);
+            uploadOrFail(model, graphUri, host, username, password);
         }
         catch (Exception e) {
             log.error("error during upload",e);
         }
     }
-    private static void loadIntoGraph_exception(byte[] data, String updateUrl) throws Exception {
+
+    static void uploadOrFail(Model model, String graphUri, String host, String username, String password) throws Exception {
+        uploadOrFail(model, graphUri, host, username, password, 0);
+    }
+
+    static void uploadOrFail(Model model, String graphUri, String host, String username, String password, int timeoutMs) throws Exception {
+        Authenticator.setDefault(new Authenticator() {
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication(username, password.toCharArray());
+            }
+        });
+
+        StringWriter writer = new StringWriter();
+        model.write(writer, "TURTLE");
+
+        String sparqlUrl = host + "/sparql" + "-graph-crud-auth?graph-uri=" + graphUri;
+        loadIntoGraph_exception(writer.toString().getBytes(StandardCharsets.UTF_8), sparqlUrl, timeoutMs);
+    }
+    private static void loadIntoGraph_exception(byte[] data, String updateUrl, int timeoutMs) throws Exception {
         URL url = new URL(updateUrl);
 
         HttpURLConnection conn = (HttpURLConnection) url.openConnection();
@@ -42,7 +53,27 @@ public interface VirtuosoUploadUtils {
         conn.setRequestProperty("charset", "utf-8");
         conn.setRequestProperty("Content-Length", Integer.toString(data.length));
         conn.setUseCaches(false);
-        conn.getOutputStream().write(data);
-        log.trace("code: {}, message: {}", conn.getResponseCode(),conn.getResponseMessage());
+        conn.setConnectTimeout(timeoutMs);
+        conn.setReadTimeout(timeoutMs);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(data);
+        }
+        int code = conn.getResponseCode();
+        log.trace("code: {}, message: {}", code,conn.getResponseMessage());
+        if (code >= 300) {
+            String message = conn.getResponseMessage();
+            // drain the error body so the keep-alive connection can be reused, drop it if that fails
+            try (InputStream err = conn.getErrorStream()) {
+                if (err != null) {
+                    err.readAllBytes();
+                }
+            } catch (IOException e) {
+                conn.disconnect();
+            }
+            throw new RuntimeException("upload failed with code %s: %s".formatted(code, message));
+        }
+        try (InputStream in = conn.getInputStream()) {
+            in.readAllBytes();
+        }
     }
 }
@@ -0,0 +1,109 @@
+package tech.artcoded.csvtottl.transformer;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.VCARD;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.artcoded.csvtottl.utils.CsvDto;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvToSubsetTest {
+    private static final String NAMESPACE_PREFIX = "http://bittich.be/bce";
+    private static final Property ADDRESS_BELONGS_TO = ResourceFactory.createProperty(NAMESPACE_PREFIX + "/addressBelongsTo");
+    private static final Property HAS_STREET = ResourceFactory.createProperty(NAMESPACE_PREFIX + "/hasStreet");
+    private static final Property HAS_POSTCODE = ResourceFactory.createProperty(NAMESPACE_PREFIX + "/hasPostcode");
+    private static final Property HOUSE_NUMBER = ResourceFactory.createProperty(NAMESPACE_PREFIX + "/houseNumber");
+
+    @TempDir
+    File batchDir;
+
+    @Test
+    void internedAddressesKeepStreetPostcodeAndHouseNumberOfEachRow() {
+        Model model = transform(List.of(
+                address("REGO", "1000", "Rue Neuve", "Nieuwstraat", "1"),
+                address("BAET", "1040", "Rue de la Loi", "Wetstraat", "16")));
+
+        Resource company = model.getResource(NAMESPACE_PREFIX + "/company/0200065765");
+        List<Resource> addresses = model.listSubjectsWithProperty(ADDRESS_BELONGS_TO, company).toList();
+
+        assertThat(addresses).hasSize(2);
+        Set<String> rows = addresses.stream()
+                .map(address -> "%s %s, %s".formatted(
+                        label(address.getPropertyResourceValue(HAS_STREET), "fr"),
+                        address.getProperty(HOUSE_NUMBER).getString(),
+                        address.getPropertyResourceValue(HAS_POSTCODE).getProperty(VCARD.Pcode).getString()))
+                .collect(Collectors.toSet());
+        assertThat(rows).containsExactlyInAnyOrder("Rue Neuve 1, 1000", "Rue de la Loi 16, 1040");
+    }
+
+    @Test
+    void foreignAndBelgianAddressesGetDifferentKeys() {
+        Map<String, String> brussels = address("REGO", "1000", "Rue Neuve", "Nieuwstraat", "1");
+        Map<String, String> foreign = new HashMap<>(brussels);
+        foreign.put("CountryFR", "France");
+        foreign.put("CountryNL", "Frankrijk");
+
+        assertThat(CsvToSubset.postcodeKey(brussels)).contains("||1000");
+        assertThat(CsvToSubset.streetKey(brussels)).contains("||1000|Rue Neuve|Nieuwstraat");
+        assertThat(CsvToSubset.streetKey(foreign)).contains("France|Frankrijk|1000|Rue Neuve|Nieuwstraat");
+        assertThat(CsvToSubset.addressRowKey(brussels)).isNotEqualTo(CsvToSubset.addressRowKey(foreign));
+    }
+
+    private Model transform(List<Map<String, String>> addresses) {
+        CsvToSubset csvToSubset = new CsvToSubset();
+        ReflectionTestUtils.setField(csvToSubset, "internAddresses", true);
+        ReflectionTestUtils.setField(csvToSubset, "writeSummary", false);
+        Model written = ModelFactory.createDefaultModel();
+        List<Map<String, String>> codes = List.of(
+                Map.of("Category", "TypeOfAddress", "Code", "REGO", "Language", "FR", "Description", "Siège"),
+                Map.of("Category", "TypeOfAddress", "Code", "BAET", "Language", "FR", "Description", "Unité d'établissement"));
+        CsvDto enterprises = csv(List.of(Map.of("EnterpriseNumber", "0200.065.765", "Status", "AC", "JuridicalSituation", "000",
+                "TypeOfEnterprise", "2", "JuridicalForm", "417", "StartDate", "09-08-1960")));
+
+        csvToSubset.transform(10, batchDir, (name, model) -> written.add(model), codes, enterprises,
+                csv(List.of()), csv(List.of()), csv(addresses));
+        return written;
+    }
+
+    private static Map<String, String> address(String type, String zipcode, String streetFr, String streetNl, String houseNumber) {
+        Map<String, String> address = new HashMap<>();
+        address.put("EntityNumber", "0200.065.765");
+        address.put("TypeOfAddress", type);
+        address.put("CountryFR", "");
+        address.put("CountryNL", "");
+        address.put("Zipcode", zipcode);
+        address.put("MunicipalityFR", "1000".equals(zipcode) ? "Bruxelles" : "Etterbeek");
+        address.put("MunicipalityNL", "1000".equals(zipcode) ? "Brussel" : "Etterbeek");
+        address.put("StreetFR", streetFr);
+        address.put("StreetNL", streetNl);
+        address.put("HouseNumber", houseNumber);
+        address.put("Box", "");
+        return address;
+    }
+
+    private static CsvDto csv(List<Map<String, String>> rows) {
+        return new CsvDto(new String[0], rows);
+    }
+
+    private static String label(Resource resource, String lang) {
+        return resource.listProperties(RDFS.label).toList().stream()
+                .filter(statement -> lang.equals(statement.getLanguage()))
+                .map(statement -> statement.getString())
+                .findFirst()
+                .orElse("");
+    }
+}
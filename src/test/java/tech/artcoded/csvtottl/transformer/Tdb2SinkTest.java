@@ -0,0 +1,64 @@
+package tech.artcoded.csvtottl.transformer;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Tdb2SinkTest {
+
+    @TempDir
+    File location;
+
+    @Test
+    void batchesAreLoadedIntoTheDatabase() {
+        try (Tdb2Sink sink = new Tdb2Sink(location.getAbsolutePath(), false)) {
+            sink.write("1", model("first", 3));
+            sink.write("2", model("second", 2));
+
+            DatasetGraph datasetGraph = DatabaseMgr.connectDatasetGraph(location.getAbsolutePath());
+            assertThat(Txn.calculateRead(datasetGraph, () -> datasetGraph.getDefaultGraph().size())).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void existingDatabaseIsKeptWithoutOverwrite() {
+        try (Tdb2Sink sink = new Tdb2Sink(location.getAbsolutePath(), false)) {
+            sink.write("1", model("first", 1));
+        }
+
+        assertThatThrownBy(() -> new Tdb2Sink(location.getAbsolutePath(), false))
+                .hasMessageContaining("tdb2.overwrite");
+    }
+
+    @Test
+    void directoryThatIsNotADatabaseIsNeverDeleted() throws Exception {
+        File notes = new File(location, "notes.txt");
+        Files.writeString(notes.toPath(), "keep me", StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> new Tdb2Sink(location.getAbsolutePath(), true))
+                .hasMessageContaining("not a tdb2 database");
+        assertThat(notes).exists();
+    }
+
+    private static Model model(String prefix, int triples) {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < triples; i++) {
+            model.add(ResourceFactory.createResource("http://bittich.be/bce/test/%s/%s".formatted(prefix, i)),
+                    ResourceFactory.createProperty("http://bittich.be/bce/test/value"),
+                    ResourceFactory.createStringLiteral(String.valueOf(i)));
+        }
+        return model;
+    }
+}
@@ -0,0 +1,99 @@
+package tech.artcoded.csvtottl.transformer;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.artcoded.csvtottl.loadtest.StubSparqlEndpoint;
+import tech.artcoded.csvtottl.utils.UploadClient;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadSinkTest {
+
+    @TempDir
+    File spillDir;
+
+    @Test
+    void failedUploadIsSpilledToDisk() {
+        try (StubSparqlEndpoint stub = new StubSparqlEndpoint(0, 2, 0, 0, 1.0)) {
+            try (UploadSink sink = sink(stub, 2)) {
+                sink.write("1234", model());
+            }
+            assertThat(new File(spillDir, "1234.ttl")).exists();
+            assertThat(stub.getErrors().get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void successfulUploadWritesNothing() {
+        try (StubSparqlEndpoint stub = new StubSparqlEndpoint(0, 2, 0, 0, 0)) {
+            try (UploadSink sink = sink(stub, 2)) {
+                sink.write("1234", model());
+            }
+            assertThat(spillDir.list()).isEmpty();
+            assertThat(stub.getRequests().get()).isEqualTo(1);
+            assertThat(stub.getBytesReceived().get()).isPositive();
+        }
+    }
+
+    @Test
+    void writeBlocksOnceMaxInFlightUploadsArePending() throws Exception {
+        try (StubSparqlEndpoint stub = new StubSparqlEndpoint(0, 2, 1000, 0, 0);
+             UploadSink sink = sink(stub, 1)) {
+            sink.write("1", model());
+
+            CompletableFuture<Void> second = CompletableFuture.runAsync(() -> sink.write("2", model()));
+            TimeUnit.MILLISECONDS.sleep(300);
+            assertThat(second).isNotDone();
+
+            second.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(spillDir.list()).isEmpty();
+    }
+
+    @Test
+    void failingUploadIsRetriedThenSpilled() {
+        try (StubSparqlEndpoint stub = new StubSparqlEndpoint(0, 2, 0, 0, 1.0)) {
+            try (UploadSink sink = sink(stub, 2, 5000, 2)) {
+                sink.write("1234", model());
+            }
+            assertThat(stub.getRequests().get()).isEqualTo(3);
+            assertThat(new File(spillDir, "1234.ttl")).exists();
+        }
+    }
+
+    @Test
+    void uploadSlowerThanTheTimeoutIsSpilled() {
+        try (StubSparqlEndpoint stub = new StubSparqlEndpoint(0, 2, 3000, 0, 0)) {
+            long start = System.nanoTime();
+            try (UploadSink sink = sink(stub, 2, 300, 0)) {
+                sink.write("1234", model());
+            }
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(3000);
+            assertThat(new File(spillDir, "1234.ttl")).exists();
+        }
+    }
+
+    private UploadSink sink(StubSparqlEndpoint stub, int maxInFlight) {
+        return sink(stub, maxInFlight, 5000, 0);
+    }
+
+    private UploadSink sink(StubSparqlEndpoint stub, int maxInFlight, int timeoutMs, int retries) {
+        return new UploadSink(UploadClient.VIRTUOSO, "http://bittich.be/graphs/test", stub.getHost(), "dba", "dba",
+                maxInFlight, timeoutMs, retries, spillDir);
+    }
+
+    private static Model model() {
+        Model model = ModelFactory.createDefaultModel();
+        model.add(ResourceFactory.createResource("http://bittich.be/bce/company/0200000001"),
+                ResourceFactory.createProperty("http://mu.semte.ch/vocabularies/core/uuid"),
+                "0200000001");
+        return model;
+    }
+}
@@ -0,0 +1,40 @@
+package tech.artcoded.csvtottl.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdDictionaryTest {
+    // street|CountryFR|CountryNL|Zipcode|StreetFR|StreetNL, as built by the converter
+    private static final String BRUSSELS_STREET = "street|||1000|Rue Neuve|Nieuwstraat";
+    private static final String FOREIGN_STREET = "street|France|Frankrijk|1000|Rue Neuve|";
+
+    @Test
+    void idsAreStableAcrossDictionaries() {
+        IdDictionary dictionary = new IdDictionary();
+        assertThat(dictionary.contains(BRUSSELS_STREET)).isFalse();
+
+        String id = dictionary.idOf(BRUSSELS_STREET);
+
+        assertThat(dictionary.contains(BRUSSELS_STREET)).isTrue();
+        assertThat(id).isEqualTo(dictionary.idOf(BRUSSELS_STREET))
+                .isEqualTo(new IdDictionary().idOf(BRUSSELS_STREET))
+                .isEqualTo(IdDictionary.nameId(BRUSSELS_STREET))
+                .isEqualTo(UUID.nameUUIDFromBytes(BRUSSELS_STREET.getBytes(StandardCharsets.UTF_8)).toString());
+        assertThat(dictionary.idOf(FOREIGN_STREET)).isNotEqualTo(id);
+    }
+
+    @Test
+    void sizeCountsKeysWithAnId() {
+        IdDictionary dictionary = new IdDictionary();
+        dictionary.idOf(BRUSSELS_STREET);
+        dictionary.idOf(BRUSSELS_STREET);
+        IdDictionary.nameId(FOREIGN_STREET);
+
+        assertThat(dictionary.size()).isEqualTo(1);
+        assertThat(dictionary.contains(FOREIGN_STREET)).isFalse();
+    }
+}
@@ -0,0 +1,32 @@
+package tech.artcoded.csvtottl.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyStatsTest {
+
+    @Test
+    void percentilesOfOneToHundredMillis() {
+        List<Long> nanos = LongStream.rangeClosed(1, 100).map(TimeUnit.MILLISECONDS::toNanos).boxed()
+                .sorted((a, b) -> Long.compare(b, a))
+                .collect(Collectors.toList());
+        List<Long> sorted = LatencyStats.sorted(nanos);
+
+        assertThat(LatencyStats.percentileMillis(sorted, 50)).isEqualTo(50d);
+        assertThat(LatencyStats.percentileMillis(sorted, 99)).isEqualTo(99d);
+        assertThat(LatencyStats.percentileMillis(sorted, 100)).isEqualTo(100d);
+        assertThat(LatencyStats.percentileMillis(sorted, 0)).isEqualTo(1d);
+    }
+
+    @Test
+    void singleAndEmptySamples() {
+        assertThat(LatencyStats.percentileMillis(List.of(TimeUnit.MICROSECONDS.toNanos(1500)), 99)).isEqualTo(1.5d);
+        assertThat(LatencyStats.percentileMillis(List.of(), 50)).isZero();
+    }
+}
@@ -0,0 +1,33 @@
+package tech.artcoded.csvtottl.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringDictionaryTest {
+
+    @Test
+    void internReturnsOneInstancePerValue() {
+        StringDictionary dictionary = new StringDictionary();
+        String first = dictionary.intern(new String("Bruxelles"));
+        String second = dictionary.intern(new String("Bruxelles"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(dictionary.intern("Brussel")).isNotSameAs(first);
+        assertThat(dictionary.intern(null)).isNull();
+        assertThat(dictionary.size()).isEqualTo(2);
+    }
+
+    @Test
+    void containsAndSizeCountInternedValues() {
+        StringDictionary dictionary = new StringDictionary();
+        assertThat(dictionary.contains("Rue Neuve")).isFalse();
+
+        dictionary.intern("Rue Neuve");
+        dictionary.intern("Rue Neuve");
+
+        assertThat(dictionary.contains("Rue Neuve")).isTrue();
+        assertThat(dictionary.contains("Nieuwstraat")).isFalse();
+        assertThat(dictionary.size()).isEqualTo(1);
+    }
+}